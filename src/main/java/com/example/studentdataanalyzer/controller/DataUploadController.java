@@ -5,7 +5,9 @@ package com.example.studentdataanalyzer.controller;
 import com.example.studentdataanalyzer.model.StudentData;
 import com.example.studentdataanalyzer.service.CsvParserService;
 import com.example.studentdataanalyzer.service.DataAnalysisService;
+import com.example.studentdataanalyzer.service.UploadAdmissionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,11 +30,14 @@ public class DataUploadController {
 
     private final CsvParserService csvParserService;
     private final DataAnalysisService dataAnalysisService;
+    private final UploadAdmissionService uploadAdmissionService;
 
     @Autowired
-    public DataUploadController(CsvParserService csvParserService, DataAnalysisService dataAnalysisService) {
+    public DataUploadController(CsvParserService csvParserService, DataAnalysisService dataAnalysisService,
+                                UploadAdmissionService uploadAdmissionService) {
         this.csvParserService = csvParserService;
         this.dataAnalysisService = dataAnalysisService;
+        this.uploadAdmissionService = uploadAdmissionService;
     }
 
     @PostMapping("/upload")
@@ -54,7 +59,8 @@ public class DataUploadController {
         }
 
 
-        try {
+        // The permit reserves heap for the unpivoted list and is released once the analysis is built.
+        try (UploadAdmissionService.Permit permit = uploadAdmissionService.acquire(file)) {
             List<StudentData> studentDataList = csvParserService.parseCsv(file, year);
             LOGGER.info("Successfully parsed CSV. Number of unpivoted records: " + studentDataList.size());
 
@@ -95,6 +101,14 @@ public class DataUploadController {
             LOGGER.info("Analysis complete. Sending results for year " + year);
             return ResponseEntity.ok(analysisResults);
 
+        } catch (UploadAdmissionService.AdmissionRejectedException e) {
+            LOGGER.warning("Upload rejected by admission control: " + e.getMessage());
+            responseBody.put("error", e.getMessage());
+            if (e.isTooLarge()) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(responseBody);
+            }
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(uploadAdmissionService.getRetryAfterSeconds())).body(responseBody);
         } catch (IllegalArgumentException e) {
             LOGGER.log(Level.WARNING, "Error processing CSV file (IllegalArgumentException): " + e.getMessage(), e);
             responseBody.put("error", "Error in CSV data or format: " + e.getMessage());
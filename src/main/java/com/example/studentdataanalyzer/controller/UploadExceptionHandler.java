@@ -0,0 +1,36 @@
+// --- Upload Error Handling ---
+// File: src/main/java/com/example/studentdataanalyzer/controller/UploadExceptionHandler.java
+package com.example.studentdataanalyzer.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+// Multipart size limits are checked before any controller method runs, so they need a global handler
+// to produce the same {"error": ...} body the upload endpoint returns.
+@RestControllerAdvice
+public class UploadExceptionHandler {
+
+    private static final Logger LOGGER = Logger.getLogger(UploadExceptionHandler.class.getName());
+
+    private final String maxFileSize;
+
+    public UploadExceptionHandler(@Value("${spring.servlet.multipart.max-file-size:1MB}") String maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleMaxUploadSizeExceeded(MaxUploadSizeExceededException e) {
+        LOGGER.warning("Upload rejected by multipart size limit: " + e.getMessage());
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("error", "The file exceeds the maximum upload size of " + maxFileSize + ".");
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(responseBody);
+    }
+}
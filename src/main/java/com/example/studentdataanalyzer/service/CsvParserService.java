@@ -177,6 +177,75 @@ public class CsvParserService {
         return "N/A (Score out of Math range)";
     }
 
+    private DataType determineDataType(Set<String> csvHeaders) {
+        boolean hasElaPerformanceCols = ELA_PERFORMANCE_COLUMNS.stream().anyMatch(csvHeaders::contains);
+        boolean hasMathPerformanceCols = MATH_PERFORMANCE_COLUMNS.stream().anyMatch(csvHeaders::contains);
+        if (hasElaPerformanceCols && hasMathPerformanceCols) return DataType.BOTH;
+        if (hasElaPerformanceCols) return DataType.ELA;
+        if (hasMathPerformanceCols) return DataType.MATH;
+        return DataType.UNKNOWN;
+    }
+
+    // Performance columns parseCsv unpivots for the given data type (before filtering to the headers present).
+    static List<String> performanceColumnsFor(DataType dataType) {
+        switch (dataType) {
+            case ELA: return ELA_PERFORMANCE_COLUMNS;
+            case MATH: return MATH_PERFORMANCE_COLUMNS;
+            case BOTH: return ALL_POSSIBLE_PERFORMANCE_COLUMNS;
+            default: return Collections.emptyList();
+        }
+    }
+
+    // Upper bound on how many StudentData records parseCsv emits per CSV row for the given data type.
+    static int unpivotFanOut(DataType dataType) {
+        return Math.max(1, performanceColumnsFor(dataType).size());
+    }
+
+    // Header-derived DataType plus an upper-bound row count, used to size an upload before parsing it.
+    static final class CsvProfile {
+        private final DataType dataType;
+        private final long estimatedRows;
+
+        CsvProfile(DataType dataType, long estimatedRows) {
+            this.dataType = dataType;
+            this.estimatedRows = estimatedRows;
+        }
+
+        DataType getDataType() { return dataType; }
+
+        long getEstimatedRows() { return estimatedRows; }
+    }
+
+    static final int PROFILE_SAMPLE_ROWS = 200;
+
+    // Reads the header and at most PROFILE_SAMPLE_ROWS records. Files that end within the sample get an exact
+    // row count; longer ones divide the file size by the shortest sampled row, which over- rather than
+    // under-counts as long as later rows are no shorter than the shortest of the first few hundred.
+    CsvProfile profileCsv(MultipartFile file) throws IOException {
+        if (file.isEmpty()) return new CsvProfile(DataType.UNKNOWN, 0);
+        try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+             CSVParser csvParser = new CSVParser(fileReader,
+                     CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setTrim(true).setIgnoreEmptyLines(true).build())) {
+            Set<String> csvHeaders = csvParser.getHeaderMap().keySet().stream().map(String::trim).collect(Collectors.toSet());
+            DataType dataType = determineDataType(csvHeaders);
+
+            long sampledRows = 0;
+            long previousPosition = -1;
+            long shortestRowChars = Long.MAX_VALUE;
+            for (CSVRecord csvRecord : csvParser) {
+                long position = csvRecord.getCharacterPosition();
+                if (previousPosition >= 0) shortestRowChars = Math.min(shortestRowChars, position - previousPosition);
+                previousPosition = position;
+                if (++sampledRows > PROFILE_SAMPLE_ROWS) break;
+            }
+            if (sampledRows <= PROFILE_SAMPLE_ROWS) return new CsvProfile(dataType, sampledRows);
+
+            // Characters never outnumber UTF-8 bytes, so dividing bytes by characters can only overshoot.
+            long shortestRow = Math.max(1, shortestRowChars);
+            return new CsvProfile(dataType, (file.getSize() + shortestRow - 1) / shortestRow);
+        }
+    }
+
     public List<StudentData> parseCsv(MultipartFile file, int yearFromUser) throws IOException, IllegalArgumentException {
         List<StudentData> studentDataList = new ArrayList<>();
         if (file.isEmpty()) throw new IllegalArgumentException("Uploaded file is empty.");
@@ -188,14 +257,10 @@ public class CsvParserService {
             Set<String> csvHeaders = csvParser.getHeaderMap().keySet().stream().map(String::trim).collect(Collectors.toSet());
             LOGGER.info("CSV Headers found: " + csvHeaders);
 
-            boolean hasElaPerformanceCols = ELA_PERFORMANCE_COLUMNS.stream().anyMatch(csvHeaders::contains);
-            boolean hasMathPerformanceCols = MATH_PERFORMANCE_COLUMNS.stream().anyMatch(csvHeaders::contains);
-
-            DataType detectedType;
-            if (hasElaPerformanceCols && hasMathPerformanceCols) detectedType = DataType.BOTH;
-            else if (hasElaPerformanceCols) detectedType = DataType.ELA;
-            else if (hasMathPerformanceCols) detectedType = DataType.MATH;
-            else detectedType = DataType.UNKNOWN;
+            DataType detectedType = determineDataType(csvHeaders);
+            List<String> performanceColsToUnpivot = performanceColumnsFor(detectedType).stream()
+                    .filter(csvHeaders::contains)
+                    .collect(Collectors.toList());
 
             LOGGER.info("Detected CSV data type: " + detectedType);
 
@@ -234,14 +299,6 @@ public class CsvParserService {
                     String riseElaProficiency = determineRiseElaProficiency(gradeLevelFromCsv, scaleScore);
                     String mathProficiency = determineMathProficiency(gradeLevelFromCsv, scaleScore);
 
-                    List<String> performanceColsToUnpivot = new ArrayList<>();
-                    if (hasElaPerformanceCols) { // Use flag instead of detectedType for more direct check
-                        ELA_PERFORMANCE_COLUMNS.stream().filter(csvHeaders::contains).forEach(performanceColsToUnpivot::add);
-                    }
-                    if (hasMathPerformanceCols) { // Use flag
-                        MATH_PERFORMANCE_COLUMNS.stream().filter(csvHeaders::contains).forEach(performanceColsToUnpivot::add);
-                    }
-
                     if (performanceColsToUnpivot.isEmpty()){
                         studentDataList.add(new StudentData(
                                 studentId, formattedStudentName, gradeLevelFromCsv, specialEd, ell, scaleScore,
@@ -0,0 +1,223 @@
+// --- Upload Admission Service ---
+// File: src/main/java/com/example/studentdataanalyzer/service/UploadAdmissionService.java
+package com.example.studentdataanalyzer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Gates uploads against a global heap budget. Each upload is charged an estimated memory cost
+ * (derived from its file size and detected DataType) before it is parsed; uploads that don't fit
+ * wait in FIFO order for up to max-wait-ms, and are rejected if the queue is full or the wait expires.
+ */
+@Service
+public class UploadAdmissionService {
+
+    private static final Logger LOGGER = Logger.getLogger(UploadAdmissionService.class.getName());
+
+    // Heap retained per upload is modelled as rows * (ROW + fanOut * RECORD) + fileSize * TEXT. The fit comes from
+    // parsing generated 50k-row CSVs on a 64-bit JVM with compressed oops: about 210 bytes per row for the shared
+    // String fields, about 140 bytes per StudentData record (object, list slot, performance-level String), and
+    // under 1 byte of String data per byte of CSV text. ROW and RECORD add headroom for the HashMap/HashSet
+    // intermediates DataAnalysisService builds per row and per record; TEXT is 2 because Strings containing
+    // any non-Latin-1 character are stored as UTF-16. UploadAdmissionLoadTests re-measures this.
+    static final long RETAINED_BYTES_PER_ROW = 320;
+    static final long RETAINED_BYTES_PER_RECORD = 192;
+    static final long RETAINED_BYTES_PER_CSV_BYTE = 2;
+
+    private final CsvParserService csvParserService;
+    private final long budgetBytes;
+    private final long maxWaitMillis;
+    private final int maxQueuedUploads;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition capacityAvailable = lock.newCondition();
+    private final Deque<Object> waiters = new ArrayDeque<>();
+    private volatile long usedBytes;
+    private volatile int queuedUploads;
+
+    private final Timer waitTimer;
+    private final Counter rejectedTooLarge;
+    private final Counter rejectedBusy;
+
+    @Autowired
+    public UploadAdmissionService(CsvParserService csvParserService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${analyzer.upload.memory-budget-mb:0}") long budgetMegabytes,
+                                  @Value("${analyzer.upload.max-wait-ms:10000}") long maxWaitMillis,
+                                  @Value("${analyzer.upload.max-queued:16}") int maxQueuedUploads) {
+        this.csvParserService = csvParserService;
+        // 0 (the default) means "half of the max heap", leaving room for everything else in the JVM.
+        this.budgetBytes = budgetMegabytes > 0 ? budgetMegabytes * 1024 * 1024 : Runtime.getRuntime().maxMemory() / 2;
+        this.maxWaitMillis = maxWaitMillis;
+        this.maxQueuedUploads = maxQueuedUploads;
+
+        Gauge.builder("analyzer.upload.admission.budget.used", this, UploadAdmissionService::getUsedBytes)
+                .description("Estimated heap currently reserved by admitted uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("analyzer.upload.admission.budget.total", this, UploadAdmissionService::getBudgetBytes)
+                .description("Global heap budget available to uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("analyzer.upload.admission.queued", this, UploadAdmissionService::getQueuedUploads)
+                .description("Uploads waiting for budget")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("analyzer.upload.admission.wait")
+                .description("Time uploads spent waiting for budget before being admitted")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedTooLarge = Counter.builder("analyzer.upload.admission.rejected")
+                .tag("reason", "too_large")
+                .register(meterRegistry);
+        this.rejectedBusy = Counter.builder("analyzer.upload.admission.rejected")
+                .tag("reason", "busy")
+                .register(meterRegistry);
+
+        LOGGER.info("Upload admission budget: " + budgetBytes + " bytes, max wait " + maxWaitMillis
+                + " ms, max queued " + maxQueuedUploads);
+    }
+
+    public Permit acquire(MultipartFile file) throws IOException, AdmissionRejectedException {
+        CsvParserService.CsvProfile profile = csvParserService.profileCsv(file);
+        long cost = estimateMemoryCost(file.getSize(), profile.getEstimatedRows(), profile.getDataType());
+        LOGGER.info("Estimated memory cost for " + file.getOriginalFilename() + " (" + profile.getDataType() + ", ~"
+                + profile.getEstimatedRows() + " rows): " + cost + " bytes");
+        return acquire(cost);
+    }
+
+    long estimateMemoryCost(long fileSizeBytes, long estimatedRows, DataType dataType) {
+        long bytesPerRow = RETAINED_BYTES_PER_ROW + CsvParserService.unpivotFanOut(dataType) * RETAINED_BYTES_PER_RECORD;
+        return estimatedRows * bytesPerRow + fileSizeBytes * RETAINED_BYTES_PER_CSV_BYTE;
+    }
+
+    Permit acquire(long cost) throws AdmissionRejectedException {
+        if (cost > budgetBytes) {
+            rejectedTooLarge.increment();
+            throw new AdmissionRejectedException(true,
+                    "The file is too large to analyze on this server (estimated " + (cost / (1024 * 1024))
+                            + " MB needed, budget is " + (budgetBytes / (1024 * 1024)) + " MB).");
+        }
+
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && usedBytes + cost <= budgetBytes) {
+                return admit(cost, start);
+            }
+            if (waiters.size() >= maxQueuedUploads) {
+                rejectedBusy.increment();
+                throw new AdmissionRejectedException(false, "The server is busy analyzing other uploads. Please try again shortly.");
+            }
+
+            Object ticket = new Object();
+            waiters.addLast(ticket);
+            queuedUploads = waiters.size();
+            try {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (waiters.peekFirst() != ticket || usedBytes + cost > budgetBytes) {
+                    if (remainingNanos <= 0) {
+                        rejectedBusy.increment();
+                        throw new AdmissionRejectedException(false, "Timed out waiting for other uploads to finish. Please try again shortly.");
+                    }
+                    remainingNanos = capacityAvailable.awaitNanos(remainingNanos);
+                }
+                return admit(cost, start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectedBusy.increment();
+                throw new AdmissionRejectedException(false, "Upload was interrupted while waiting to be analyzed.");
+            } finally {
+                waiters.remove(ticket);
+                queuedUploads = waiters.size();
+                // The head of the queue changed, so the next waiter has to re-check.
+                capacityAvailable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Permit admit(long cost, long startNanos) {
+        usedBytes += cost;
+        waitTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return new Permit(cost);
+    }
+
+    private void release(long cost) {
+        lock.lock();
+        try {
+            usedBytes -= cost;
+            capacityAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public int getQueuedUploads() {
+        return queuedUploads;
+    }
+
+    // Suggested client back-off: one full admission wait, rounded up to whole seconds.
+    public long getRetryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(maxWaitMillis + 999));
+    }
+
+    /** Reservation against the budget; close it once the upload's data is no longer referenced. */
+    public final class Permit implements AutoCloseable {
+        private final long cost;
+        private boolean released;
+
+        private Permit(long cost) {
+            this.cost = cost;
+        }
+
+        public long getCost() {
+            return cost;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                release(cost);
+            }
+        }
+    }
+
+    public static class AdmissionRejectedException extends Exception {
+        private final boolean tooLarge;
+
+        public AdmissionRejectedException(boolean tooLarge, String message) {
+            super(message);
+            this.tooLarge = tooLarge;
+        }
+
+        // True when the upload can never fit the budget; false when retrying later may succeed.
+        public boolean isTooLarge() {
+            return tooLarge;
+        }
+    }
+}
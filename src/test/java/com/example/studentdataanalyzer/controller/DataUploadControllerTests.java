@@ -0,0 +1,66 @@
+package com.example.studentdataanalyzer.controller;
+
+import com.example.studentdataanalyzer.service.CsvParserService;
+import com.example.studentdataanalyzer.service.DataAnalysisService;
+import com.example.studentdataanalyzer.service.UploadAdmissionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DataUploadController.class)
+class DataUploadControllerTests {
+
+    private static final MockMultipartFile CSV = new MockMultipartFile(
+            "file", "scores.csv", "text/csv", "Student ID\n1\n".getBytes());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CsvParserService csvParserService;
+
+    @MockitoBean
+    private DataAnalysisService dataAnalysisService;
+
+    @MockitoBean
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Test
+    void uploadThatCanNeverFitBudgetReturns413() throws Exception {
+        when(uploadAdmissionService.acquire(any())).thenThrow(
+                new UploadAdmissionService.AdmissionRejectedException(true, "too large for budget"));
+
+        mockMvc.perform(multipart("/api/data/upload").file(CSV).param("year", "2024"))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.error").value("too large for budget"));
+        verify(csvParserService, never()).parseCsv(any(), anyInt());
+    }
+
+    @Test
+    void busyServerReturns503WithRetryAfterFromWaitSetting() throws Exception {
+        when(uploadAdmissionService.acquire(any())).thenThrow(
+                new UploadAdmissionService.AdmissionRejectedException(false, "server busy"));
+        when(uploadAdmissionService.getRetryAfterSeconds()).thenReturn(12L);
+
+        mockMvc.perform(multipart("/api/data/upload").file(CSV).param("year", "2024"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "12"))
+                .andExpect(jsonPath("$.error").value("server busy"));
+        verify(csvParserService, never()).parseCsv(any(), anyInt());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.studentdataanalyzer.service;
+
+import com.example.studentdataanalyzer.model.StudentData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvParserServiceTests {
+
+    private final CsvParserService csvParserService = new CsvParserService();
+
+    @ParameterizedTest
+    @EnumSource(DataType.class)
+    void detectedTypeMatchesGeneratedColumns(DataType dataType) throws Exception {
+        MockMultipartFile file = StudentCsvFixtures.file(dataType, 5, false);
+        assertEquals(dataType, csvParserService.profileCsv(file).getDataType());
+    }
+
+    @Test
+    void profileCountsRowsExactlyWhenFileFitsInSample() throws Exception {
+        MockMultipartFile file = StudentCsvFixtures.file(DataType.ELA, CsvParserService.PROFILE_SAMPLE_ROWS, false);
+        assertEquals(CsvParserService.PROFILE_SAMPLE_ROWS, csvParserService.profileCsv(file).getEstimatedRows());
+    }
+
+    @ParameterizedTest
+    @EnumSource(DataType.class)
+    void profileNeverUnderestimatesRowsOfLongerFiles(DataType dataType) throws Exception {
+        int rows = 20 * CsvParserService.PROFILE_SAMPLE_ROWS;
+        for (boolean compact : new boolean[]{false, true}) {
+            long estimatedRows = csvParserService.profileCsv(StudentCsvFixtures.file(dataType, rows, compact)).getEstimatedRows();
+            assertTrue(estimatedRows >= rows, "estimated " + estimatedRows + " rows for " + rows);
+            assertTrue(estimatedRows <= rows * 2L, "estimated " + estimatedRows + " rows for " + rows);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DataType.class)
+    void parseNeverEmitsMoreThanFanOutRecordsPerRow(DataType dataType) throws Exception {
+        int rows = 50;
+        List<StudentData> records = csvParserService.parseCsv(StudentCsvFixtures.file(dataType, rows, false), 2024);
+
+        Map<String, Long> recordsPerStudent = records.stream()
+                .collect(Collectors.groupingBy(StudentData::getStudentId, Collectors.counting()));
+        assertEquals(rows, recordsPerStudent.size());
+        recordsPerStudent.values().forEach(count ->
+                assertEquals(CsvParserService.unpivotFanOut(dataType), count.intValue()));
+    }
+
+    @Test
+    void partialPerformanceColumnsStayWithinFanOut() throws Exception {
+        String csv = "Student ID,Student Name,Grade,ELL,Special Ed,Scale Score,Performance,Ethnicity,Gender,"
+                + "Language Performance,Functions Performance\n"
+                + "1,\"Doe, Jane\",05,No,No,420,Proficient,White,Female,At/Near Standard,Above Standard\n";
+        MockMultipartFile file = new MockMultipartFile("file", "partial.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(DataType.BOTH, csvParserService.profileCsv(file).getDataType());
+        List<StudentData> records = csvParserService.parseCsv(file, 2024);
+        assertEquals(2, records.size());
+        assertTrue(records.size() <= CsvParserService.unpivotFanOut(DataType.BOTH));
+    }
+}
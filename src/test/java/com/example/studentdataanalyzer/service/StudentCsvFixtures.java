@@ -0,0 +1,58 @@
+package com.example.studentdataanalyzer.service;
+
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Generates RISE-style CSV exports for tests. "Compact" rows use the shortest plausible values,
+// which is the worst case for estimating row count from file size.
+final class StudentCsvFixtures {
+
+    private static final String[] COMMON_HEADERS = {
+            "Student ID", "Student Name", "Grade", "ELL", "Special Ed", "Scale Score", "Performance", "Ethnicity", "Gender"
+    };
+    private static final String[] PERFORMANCE_LEVELS = {"Below Standard", "At/Near Standard", "Above Standard"};
+    private static final String[] ETHNICITIES = {"Hispanic", "White", "Asian", "Black/African American", "Pacific Islander"};
+
+    private StudentCsvFixtures() {
+    }
+
+    static String generate(DataType dataType, int rows, boolean compact) {
+        List<String> headers = new ArrayList<>(List.of(COMMON_HEADERS));
+        headers.addAll(CsvParserService.performanceColumnsFor(dataType));
+
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder(String.join(",", headers)).append('\n');
+        for (int row = 0; row < rows; row++) {
+            int grade = 3 + random.nextInt(6);
+            int score = 250 + random.nextInt(320);
+            if (compact) {
+                csv.append(row).append(",\"B, A\",").append(grade).append(",N,N,").append(score).append(",P,W,F");
+                for (int i = COMMON_HEADERS.length; i < headers.size(); i++) {
+                    csv.append(",A");
+                }
+            } else {
+                csv.append(1000000 + row).append(",\"Lastname").append(row).append(", Firstname\",0").append(grade)
+                        .append(',').append(random.nextBoolean() ? "Yes" : "No")
+                        .append(',').append(random.nextBoolean() ? "Yes" : "No")
+                        .append(',').append(score)
+                        .append(',').append(PERFORMANCE_LEVELS[random.nextInt(PERFORMANCE_LEVELS.length)])
+                        .append(',').append(ETHNICITIES[random.nextInt(ETHNICITIES.length)])
+                        .append(',').append(random.nextBoolean() ? "Female" : "Male");
+                for (int i = COMMON_HEADERS.length; i < headers.size(); i++) {
+                    csv.append(',').append(PERFORMANCE_LEVELS[random.nextInt(PERFORMANCE_LEVELS.length)]);
+                }
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    static MockMultipartFile file(DataType dataType, int rows, boolean compact) {
+        return new MockMultipartFile("file", dataType.name().toLowerCase() + ".csv", "text/csv",
+                generate(dataType, rows, compact).getBytes(StandardCharsets.UTF_8));
+    }
+}
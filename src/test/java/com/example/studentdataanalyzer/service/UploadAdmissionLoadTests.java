@@ -0,0 +1,198 @@
+package com.example.studentdataanalyzer.service;
+
+import com.example.studentdataanalyzer.model.StudentData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Wall-clock and heap measurements; excluded from the default build. Run with: mvn test -Pload-test
+@Tag("load")
+class UploadAdmissionLoadTests {
+
+    private static final int MEASURED_ROWS = 50_000;
+    private static final int LOAD_ROWS = 1_000;
+    private static final int BASELINE_RUNS = 30;
+
+    private final CsvParserService csvParserService = new CsvParserService();
+    private final DataAnalysisService dataAnalysisService = new DataAnalysisService();
+
+    @ParameterizedTest
+    @EnumSource(DataType.class)
+    void estimateCoversMeasuredRetainedHeap(DataType dataType) throws Exception {
+        UploadAdmissionService service = new UploadAdmissionService(csvParserService, new SimpleMeterRegistry(), 1, 1000, 4);
+        for (boolean compact : new boolean[]{false, true}) {
+            MockMultipartFile file = StudentCsvFixtures.file(dataType, MEASURED_ROWS, compact);
+            CsvParserService.CsvProfile profile = csvParserService.profileCsv(file);
+            long estimate = service.estimateMemoryCost(file.getSize(), profile.getEstimatedRows(), profile.getDataType());
+
+            long before = usedHeapAfterGc();
+            List<StudentData> records = csvParserService.parseCsv(file, 2024);
+            long retained = usedHeapAfterGc() - before;
+            assertFalse(records.isEmpty());
+
+            assertTrue(estimate >= retained, dataType + (compact ? " compact" : "") + ": estimated " + estimate
+                    + " bytes but " + retained + " were retained");
+            assertTrue(estimate <= retained * 4, dataType + (compact ? " compact" : "") + ": estimated " + estimate
+                    + " bytes for " + retained + " retained, too conservative to be useful");
+        }
+    }
+
+    // Open-loop load: uploads arrive at a fixed rate above what the CPU can serve, as they would from
+    // independent clients. Latency is measured from before acquire to after the permit closes.
+    // Without admission control every upload is accepted and latency grows with the backlog; with it,
+    // admitted uploads wait at most max-wait-ms and the excess is shed, so p99 stays within a bound set
+    // by configuration, independent of how far the offered load exceeds capacity.
+    @Test
+    void p99LatencyOfAdmittedUploadsStaysBoundedUnderOverload() throws Exception {
+        List<MockMultipartFile> files = List.of(
+                StudentCsvFixtures.file(DataType.ELA, LOAD_ROWS, false),
+                StudentCsvFixtures.file(DataType.MATH, LOAD_ROWS, false),
+                StudentCsvFixtures.file(DataType.BOTH, LOAD_ROWS, false));
+
+        List<Long> baseline = new ArrayList<>();
+        for (int i = 0; i < BASELINE_RUNS; i++) {
+            long start = System.nanoTime();
+            parseAndAnalyze(files.get(i % files.size()));
+            if (i >= BASELINE_RUNS / 3) baseline.add(System.nanoTime() - start); // first third is JIT warm-up
+        }
+        long meanServiceNanos = (long) baseline.stream().mapToLong(Long::longValue).average().orElseThrow();
+        long baselineP99 = percentile(baseline, 0.99);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        long maxWaitMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(4 * meanServiceNanos));
+        long latencyBound = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis) + 3 * baselineP99;
+        int uploads = 60 * cores;
+
+        LoadResult uncontrolled = runOpenLoop(files, null, 3, meanServiceNanos, cores, uploads);
+        assertTrue(uncontrolled.p99() > latencyBound, "without admission control p99 was " + uncontrolled.p99()
+                + " ns, inside the " + latencyBound + " ns bound; the harness is not overloading the service");
+
+        for (int overload : new int[]{2, 6}) {
+            UploadAdmissionService service = newBudgetedService(files, cores, maxWaitMillis);
+            LoadResult controlled = runOpenLoop(files, service, overload, meanServiceNanos, cores, uploads);
+
+            assertTrue(controlled.p99() <= latencyBound, overload + "x overload: p99 " + controlled.p99()
+                    + " ns exceeded " + latencyBound + " ns (uncontrolled p99 " + uncontrolled.p99() + " ns)");
+            assertTrue(controlled.rejected > 0, overload + "x overload shed nothing; the run was not overloaded");
+            assertTrue(controlled.peakReservedBytes <= service.getBudgetBytes());
+            assertEquals(0, service.getUsedBytes());
+        }
+    }
+
+    // Budget for roughly one in-flight upload per core, mirroring how many the CPU can actually progress.
+    private UploadAdmissionService newBudgetedService(List<MockMultipartFile> files, int cores, long maxWaitMillis) throws Exception {
+        UploadAdmissionService sizing = new UploadAdmissionService(csvParserService, new SimpleMeterRegistry(), 1, 1000, 4);
+        long largestCost = 0;
+        for (MockMultipartFile file : files) {
+            CsvParserService.CsvProfile profile = csvParserService.profileCsv(file);
+            largestCost = Math.max(largestCost, sizing.estimateMemoryCost(file.getSize(), profile.getEstimatedRows(), profile.getDataType()));
+        }
+        long budgetMegabytes = Math.max(1, (largestCost * cores + (1024 * 1024 - 1)) / (1024 * 1024));
+        return new UploadAdmissionService(csvParserService, new SimpleMeterRegistry(), budgetMegabytes, maxWaitMillis, 4 * cores);
+    }
+
+    private LoadResult runOpenLoop(List<MockMultipartFile> files, UploadAdmissionService service, int overload,
+                                   long meanServiceNanos, int cores, int uploads) throws Exception {
+        long arrivalIntervalNanos = Math.max(1, meanServiceNanos / ((long) overload * cores));
+        List<Long> admittedLatencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong peakReservedBytes = new AtomicLong();
+
+        ExecutorService clients = Executors.newCachedThreadPool();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long firstArrival = System.nanoTime();
+            for (int i = 0; i < uploads; i++) {
+                long arrival = firstArrival + i * arrivalIntervalNanos;
+                long delay = arrival - System.nanoTime();
+                if (delay > 0) LockSupport.parkNanos(delay);
+
+                MockMultipartFile file = files.get(i % files.size());
+                futures.add(clients.submit(() -> {
+                    long start = System.nanoTime();
+                    if (service == null) {
+                        parseAndAnalyze(file);
+                    } else {
+                        try (UploadAdmissionService.Permit ignored = service.acquire(file)) {
+                            peakReservedBytes.accumulateAndGet(service.getUsedBytes(), Math::max);
+                            parseAndAnalyze(file);
+                        } catch (UploadAdmissionService.AdmissionRejectedException e) {
+                            rejected.incrementAndGet();
+                            return null;
+                        }
+                    }
+                    admittedLatencies.add(System.nanoTime() - start);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        return new LoadResult(percentile(admittedLatencies, 0.99), rejected.get(), peakReservedBytes.get());
+    }
+
+    // Mirrors the work DataUploadController does for one upload.
+    private void parseAndAnalyze(MockMultipartFile file) throws Exception {
+        List<StudentData> records = csvParserService.parseCsv(file, 2024);
+        dataAnalysisService.calculateSubjectPerformanceLevelDistributionByYear(records);
+        dataAnalysisService.calculateRiseElaProficiencyDistributionByGradeByYear(records);
+        dataAnalysisService.calculateMathProficiencyDistributionByGradeByYear(records);
+        dataAnalysisService.calculateAverageOverallScaleScoreByYear(records);
+        dataAnalysisService.calculateAverageOverallScaleScoreOfStudentsInSubjectAreaGroupsByYear(records);
+        dataAnalysisService.calculateAverageOverallScaleScoreBySpecialEdAndSubjectAreaByYear(records);
+        dataAnalysisService.calculateOverallElaPassRateByYear(records);
+        for (String demographic : new String[]{"ethnicity", "gender", "gradelevel", "specialed"}) {
+            dataAnalysisService.calculateAverageOverallScaleScoreByDemographicByYear(records, demographic);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long percentile(List<Long> samples, double percentile) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    private static final class LoadResult {
+        private final long p99Nanos;
+        private final long rejected;
+        private final long peakReservedBytes;
+
+        private LoadResult(long p99Nanos, long rejected, long peakReservedBytes) {
+            this.p99Nanos = p99Nanos;
+            this.rejected = rejected;
+            this.peakReservedBytes = peakReservedBytes;
+        }
+
+        private long p99() {
+            return p99Nanos;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.studentdataanalyzer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadAdmissionServiceTests {
+
+    private static final long MB = 1024 * 1024;
+
+    private UploadAdmissionService newService(long budgetMegabytes, long maxWaitMillis, int maxQueued) {
+        return new UploadAdmissionService(new CsvParserService(), new SimpleMeterRegistry(),
+                budgetMegabytes, maxWaitMillis, maxQueued);
+    }
+
+    @Test
+    void estimateGrowsWithUnpivotFanOut() {
+        UploadAdmissionService service = newService(64, 1000, 4);
+        long size = 10 * MB;
+        long rows = 100_000;
+        long unknown = service.estimateMemoryCost(size, rows, DataType.UNKNOWN);
+        long ela = service.estimateMemoryCost(size, rows, DataType.ELA);
+        long math = service.estimateMemoryCost(size, rows, DataType.MATH);
+        long both = service.estimateMemoryCost(size, rows, DataType.BOTH);
+
+        assertTrue(unknown < ela);
+        assertEquals(ela, math);
+        assertTrue(ela < both);
+    }
+
+    @Test
+    void rejectsUploadLargerThanBudget() {
+        UploadAdmissionService service = newService(1, 1000, 4);
+        UploadAdmissionService.AdmissionRejectedException e = assertThrows(
+                UploadAdmissionService.AdmissionRejectedException.class, () -> service.acquire(2 * MB));
+        assertTrue(e.isTooLarge());
+        assertEquals(0, service.getUsedBytes());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFullAndReleasesBudget() throws Exception {
+        UploadAdmissionService service = newService(1, 50, 0);
+        UploadAdmissionService.Permit permit = service.acquire(MB);
+        assertEquals(MB, service.getUsedBytes());
+
+        UploadAdmissionService.AdmissionRejectedException e = assertThrows(
+                UploadAdmissionService.AdmissionRejectedException.class, () -> service.acquire(MB));
+        assertFalse(e.isTooLarge());
+
+        permit.close();
+        permit.close();
+        assertEquals(0, service.getUsedBytes());
+    }
+
+    @Test
+    void timesOutWaitingForBudget() throws Exception {
+        UploadAdmissionService service = newService(1, 50, 4);
+        try (UploadAdmissionService.Permit ignored = service.acquire(MB)) {
+            UploadAdmissionService.AdmissionRejectedException e = assertThrows(
+                    UploadAdmissionService.AdmissionRejectedException.class, () -> service.acquire(MB));
+            assertFalse(e.isTooLarge());
+            assertEquals(0, service.getQueuedUploads());
+        }
+    }
+
+    @Test
+    void retryAfterCoversOneFullWait() {
+        assertEquals(1, newService(1, 0, 4).getRetryAfterSeconds());
+        assertEquals(10, newService(1, 10000, 4).getRetryAfterSeconds());
+        assertEquals(11, newService(1, 10001, 4).getRetryAfterSeconds());
+    }
+
+    @Test
+    void queuedUploadIsAdmittedWhenEarlierPermitCloses() throws Exception {
+        UploadAdmissionService service = newService(1, 5000, 4);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            UploadAdmissionService.Permit first = service.acquire(MB);
+            Future<UploadAdmissionService.Permit> second = executor.submit(() -> service.acquire(MB));
+            awaitQueued(service, 1);
+            assertFalse(second.isDone());
+
+            first.close();
+            try (UploadAdmissionService.Permit admitted = second.get(5, TimeUnit.SECONDS)) {
+                assertEquals(MB, admitted.getCost());
+                assertEquals(MB, service.getUsedBytes());
+                assertEquals(0, service.getQueuedUploads());
+            }
+            assertEquals(0, service.getUsedBytes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void largeUploadAtHeadOfQueueIsAdmittedBeforeSmallerOnesBehindIt() throws Exception {
+        UploadAdmissionService service = newService(10, 5000, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            UploadAdmissionService.Permit holder = service.acquire(8 * MB);
+            Future<UploadAdmissionService.Permit> large = executor.submit(() -> service.acquire(10 * MB));
+            awaitQueued(service, 1);
+            // 8 MB + 1 MB fits the budget, but the small upload must not overtake the queued large one.
+            Future<UploadAdmissionService.Permit> small = executor.submit(() -> service.acquire(MB));
+            awaitQueued(service, 2);
+            Thread.sleep(100);
+            assertFalse(small.isDone());
+            assertEquals(8 * MB, service.getUsedBytes());
+
+            // The large upload takes the whole budget, so the small one stays queued until it closes.
+            holder.close();
+            UploadAdmissionService.Permit largePermit = large.get(5, TimeUnit.SECONDS);
+            assertEquals(10 * MB, service.getUsedBytes());
+            assertEquals(1, service.getQueuedUploads());
+            assertFalse(small.isDone());
+
+            largePermit.close();
+            try (UploadAdmissionService.Permit smallPermit = small.get(5, TimeUnit.SECONDS)) {
+                assertEquals(MB, service.getUsedBytes());
+                assertEquals(0, service.getQueuedUploads());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void timedOutHeadLeavesQueueAndWakesNextWaiter() throws Exception {
+        UploadAdmissionService service = newService(10, 500, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (UploadAdmissionService.Permit holder = service.acquire(8 * MB)) {
+            Future<UploadAdmissionService.Permit> large = executor.submit(() -> service.acquire(8 * MB));
+            awaitQueued(service, 1);
+            // Start the small upload well after the large one so its own deadline is clearly later.
+            Thread.sleep(200);
+            Future<UploadAdmissionService.Permit> small = executor.submit(() -> service.acquire(MB));
+            awaitQueued(service, 2);
+
+            ExecutionException timedOut = assertThrows(ExecutionException.class, () -> large.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(UploadAdmissionService.AdmissionRejectedException.class, timedOut.getCause());
+            try (UploadAdmissionService.Permit smallPermit = small.get(5, TimeUnit.SECONDS)) {
+                assertEquals(9 * MB, service.getUsedBytes());
+                assertEquals(0, service.getQueuedUploads());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void interruptedHeadLeavesQueueAndWakesNextWaiter() throws Exception {
+        UploadAdmissionService service = newService(10, 5000, 4);
+        List<Object> largeOutcome = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (UploadAdmissionService.Permit holder = service.acquire(8 * MB)) {
+            Future<?> large = executor.submit(() -> {
+                try {
+                    largeOutcome.add(service.acquire(8 * MB));
+                } catch (UploadAdmissionService.AdmissionRejectedException e) {
+                    largeOutcome.add(e);
+                    largeOutcome.add(Thread.currentThread().isInterrupted());
+                }
+            });
+            awaitQueued(service, 1);
+            Future<UploadAdmissionService.Permit> small = executor.submit(() -> service.acquire(MB));
+            awaitQueued(service, 2);
+
+            large.cancel(true);
+            try (UploadAdmissionService.Permit smallPermit = small.get(5, TimeUnit.SECONDS)) {
+                assertEquals(9 * MB, service.getUsedBytes());
+                assertEquals(0, service.getQueuedUploads());
+            }
+            awaitCondition(() -> largeOutcome.size() == 2);
+            assertInstanceOf(UploadAdmissionService.AdmissionRejectedException.class, largeOutcome.get(0));
+            assertEquals(true, largeOutcome.get(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQueued(UploadAdmissionService service, int expected) throws InterruptedException {
+        awaitCondition(() -> service.getQueuedUploads() == expected);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not reached within 5 seconds");
+            }
+            Thread.sleep(5);
+        }
+    }
+}